@@ -11,17 +11,20 @@ import javax.jms.QueueConnection;
 import javax.jms.QueueConnectionFactory;
 import javax.jms.QueueSender;
 import javax.jms.QueueSession;
-import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
+import com.remal.jmssender.jms.DeliveryProfile;
+import com.remal.jmssender.jms.DeliveryProfileBenchmark;
 import com.remal.jmssender.picocli.CustomOptionRenderer;
+import com.remal.jmssender.picocli.DeliveryProfileConverter;
 import com.remal.jmssender.util.IoUtil;
 import com.remal.jmssender.util.AnsiColor;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 
 /**
  * WebLogic JMS message sender command line tool.
@@ -68,6 +71,12 @@ public class SimpleQueueSender implements Callable<Integer> {
      */
     public static final String ERROR_MESSAGE = AnsiColor.RED_BOLD_BRIGHT + "%nERROR: %s" + AnsiColor.DEFAULT;
 
+    /**
+     * The model of the command, used to check which options were given by the user.
+     */
+    @CommandLine.Spec
+    private CommandSpec spec;
+
     /**
      * Definition of the general command line options.
      */
@@ -132,6 +141,27 @@ public class SimpleQueueSender implements Callable<Integer> {
             description = "The JNDI name of the queue where the message will be sent.")
     private String queueJndi;
 
+    /**
+     * Producer-side delivery settings.
+     */
+    @CommandLine.Option(
+            names = {"-d", "--delivery-profile"},
+            defaultValue = "default",
+            converter = DeliveryProfileConverter.class,
+            description = "The delivery settings used for sending the message. Accepted values: 'default' "
+                    + "(provider defaults), 'max-throughput' (non-persistent, no message ID and timestamp, "
+                    + "60 seconds time-to-live) and 'durable' (persistent, transacted). Cannot be combined "
+                    + "with '--benchmark'. Default is '${DEFAULT-VALUE}'.")
+    private DeliveryProfile deliveryProfile;
+
+    @CommandLine.Option(
+            names = {"-b", "--benchmark"},
+            description = "Send the given number of messages with each delivery profile to the queue and report "
+                    + "the throughput and latency of the profiles instead of sending one message. Accepted "
+                    + "values: 3 to 1000000. Always compares all profiles, so it cannot be combined with "
+                    + "'--delivery-profile'.")
+    private Integer benchmarkMessageCount;
+
     /**
      * A parameter group for manipulating the JMS message header.
      */
@@ -211,6 +241,23 @@ public class SimpleQueueSender implements Callable<Integer> {
     public Integer call() throws Exception {
         int exitCode = NO_ERROR;
 
+        if (Objects.nonNull(benchmarkMessageCount)
+                && (benchmarkMessageCount < DeliveryProfileBenchmark.MIN_MESSAGES
+                || benchmarkMessageCount > DeliveryProfileBenchmark.MAX_MESSAGES)) {
+            OUT.printf(ERROR_MESSAGE, String.format("The number of benchmark messages must be between %d and %d.",
+                    DeliveryProfileBenchmark.MIN_MESSAGES, DeliveryProfileBenchmark.MAX_MESSAGES));
+            showExitCode(USAGE_ERROR);
+            return USAGE_ERROR;
+        }
+
+        if (Objects.nonNull(benchmarkMessageCount)
+                && spec.commandLine().getParseResult().hasMatchedOption("--delivery-profile")) {
+            OUT.printf(ERROR_MESSAGE, "The '--benchmark' option compares all delivery profiles, "
+                    + "it cannot be combined with '--delivery-profile'.");
+            showExitCode(USAGE_ERROR);
+            return USAGE_ERROR;
+        }
+
         Context context = null;
         QueueConnection queueConnection = null;
         QueueSession queueSession = null;
@@ -224,7 +271,6 @@ public class SimpleQueueSender implements Callable<Integer> {
             // connect to weblogic
             context = getContext(host, port, user, password);
             queueConnection = getConnectionFactory(context, connectionFactoryJndi);
-            queueSession = getQueueSession(queueConnection);
             queue = getQueue(context, queueJndi);
 
             // send a text message
@@ -234,7 +280,14 @@ public class SimpleQueueSender implements Callable<Integer> {
                     : messageArgGroup.message;
 
             String correlationId = Objects.isNull(messageHeaderArgGroup) ? null : messageHeaderArgGroup.correlationId;
-            sendMessageToQueue(verbose, message, correlationId, queueSession, queue);
+            if (Objects.isNull(benchmarkMessageCount)) {
+                queueSession = getQueueSession(queueConnection);
+                sendMessageToQueue(verbose, message, correlationId, deliveryProfile, queueSession, queue);
+            } else {
+                boolean success = new DeliveryProfileBenchmark(OUT, verbose)
+                        .run(queueConnection, queue, message, correlationId, benchmarkMessageCount);
+                exitCode = success ? NO_ERROR : RUNTIME_ERROR;
+            }
             queueConnection.stop();
 
         } catch (NamingException | JMSException | IOException e) {
@@ -331,9 +384,10 @@ public class SimpleQueueSender implements Callable<Integer> {
     private QueueSession getQueueSession(QueueConnection queueConnection) throws JMSException {
         if (verbose) {
             OUT.printf(AnsiColor.YELLOW);
-            OUT.printf("creating queue session...%n");
+            OUT.printf("creating queue session, delivery profile: '%s' (%s)...%n",
+                    deliveryProfile.getName(), deliveryProfile.describe());
         }
-        return queueConnection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+        return deliveryProfile.createSession(queueConnection);
     }
 
     /**
@@ -356,6 +410,7 @@ public class SimpleQueueSender implements Callable<Integer> {
      * @param verbose prints additional log details as to what the tool is doing
      * @param message the message as a string
      * @param correlationId the JMS message correlation id
+     * @param deliveryProfile the delivery settings used for the sender
      * @param queueSession jms queue session
      * @param queue queue
      * @throws JMSException throw in case of error
@@ -363,6 +418,7 @@ public class SimpleQueueSender implements Callable<Integer> {
     private static void sendMessageToQueue(boolean verbose,
                                            String message,
                                            String correlationId,
+                                           DeliveryProfile deliveryProfile,
                                            QueueSession queueSession,
                                            Queue queue) throws JMSException {
         if (verbose) {
@@ -381,13 +437,13 @@ public class SimpleQueueSender implements Callable<Integer> {
             textMessage.setJMSCorrelationID(correlationId);
         }
 
-        try (QueueSender queueSender = queueSession.createSender(queue)) {
+        try (QueueSender queueSender = deliveryProfile.createSender(queueSession, queue)) {
             if (verbose) {
                 OUT.printf(AnsiColor.YELLOW);
                 OUT.printf("message: '%s%s%s'%n", AnsiColor.BLUE_BRIGHT, message, AnsiColor.YELLOW);
             }
 
-            queueSender.send(textMessage);
+            deliveryProfile.send(queueSession, queueSender, textMessage);
             OUT.printf(AnsiColor.YELLOW_BRIGHT);
             OUT.printf("message has been sent successfully%n");
         }
@@ -0,0 +1,187 @@
+package com.remal.jmssender.jms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Queue;
+import javax.jms.QueueConnection;
+import javax.jms.QueueSender;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+
+/**
+ * Named producer-side delivery settings. Every session and sender created by
+ * the tool is built through one of these profiles, so the chosen settings are
+ * applied consistently.
+ *
+ * @author arnold.somogyi@gmail.com
+ */
+public enum DeliveryProfile {
+
+    /**
+     * Non-transacted session, the delivery mode, priority and time-to-live are
+     * left on the provider defaults. This is how the tool always behaved.
+     */
+    DEFAULT("default", false, null, null, false),
+
+    /**
+     * Non-persistent delivery with message IDs and timestamps disabled and a
+     * limited time-to-live, so unconsumed messages do not pile up on the queue.
+     */
+    MAX_THROUGHPUT("max-throughput", false, DeliveryMode.NON_PERSISTENT, 60_000L, true),
+
+    /**
+     * Persistent delivery in a transacted session, every message is committed
+     * individually.
+     */
+    DURABLE("durable", true, DeliveryMode.PERSISTENT, 0L, false);
+
+    private final String name;
+    private final boolean transacted;
+    private final Integer deliveryMode;
+    private final Long timeToLive;
+    private final boolean disableMessageIdAndTimestamp;
+
+    /**
+     * Constructor. A {@code null} value keeps the provider default of the
+     * given setting.
+     *
+     * @param name the name of the profile used on the command line
+     * @param transacted whether the session is transacted
+     * @param deliveryMode the JMS delivery mode
+     * @param timeToLive the message time-to-live in milliseconds, zero means unlimited
+     * @param disableMessageIdAndTimestamp disable the generation of message IDs and timestamps
+     */
+    DeliveryProfile(String name,
+                    boolean transacted,
+                    Integer deliveryMode,
+                    Long timeToLive,
+                    boolean disableMessageIdAndTimestamp) {
+        this.name = name;
+        this.transacted = transacted;
+        this.deliveryMode = deliveryMode;
+        this.timeToLive = timeToLive;
+        this.disableMessageIdAndTimestamp = disableMessageIdAndTimestamp;
+    }
+
+    /**
+     * Find the profile by its command line name.
+     *
+     * @param name name of the profile, e.g. 'max-throughput'
+     * @return the profile
+     * @throws IllegalArgumentException if there is no profile with the given name
+     */
+    public static DeliveryProfile fromName(String name) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.name.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Invalid delivery profile: '%s'. Accepted values: %s.", name, names())));
+    }
+
+    /**
+     * Comma separated list of the profile names.
+     *
+     * @return the names of the available profiles
+     */
+    public static String names() {
+        return Arrays.stream(values())
+                .map(DeliveryProfile::getName)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the name of the profile used on the command line
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Create a queue session using the settings of this profile.
+     *
+     * @param queueConnection queue connection
+     * @return the jms queue session
+     * @throws JMSException throw in case of error
+     */
+    public QueueSession createSession(QueueConnection queueConnection) throws JMSException {
+        int acknowledgeMode = transacted ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE;
+        return queueConnection.createQueueSession(transacted, acknowledgeMode);
+    }
+
+    /**
+     * Create a queue sender using the settings of this profile.
+     *
+     * @param queueSession jms queue session
+     * @param queue queue
+     * @return the configured queue sender
+     * @throws JMSException throw in case of error
+     */
+    public QueueSender createSender(QueueSession queueSession, Queue queue) throws JMSException {
+        QueueSender queueSender = queueSession.createSender(queue);
+        if (Objects.nonNull(deliveryMode)) {
+            queueSender.setDeliveryMode(deliveryMode);
+        }
+        if (Objects.nonNull(timeToLive)) {
+            queueSender.setTimeToLive(timeToLive);
+        }
+        if (disableMessageIdAndTimestamp) {
+            queueSender.setDisableMessageID(true);
+            queueSender.setDisableMessageTimestamp(true);
+        }
+        return queueSender;
+    }
+
+    /**
+     * Send the message and commit the transaction if the session is transacted.
+     *
+     * @param queueSession the session the sender belongs to
+     * @param queueSender queue sender created by this profile
+     * @param message the message to send
+     * @throws JMSException throw in case of error
+     */
+    public void send(QueueSession queueSession, QueueSender queueSender, Message message) throws JMSException {
+        queueSender.send(message);
+        if (transacted) {
+            queueSession.commit();
+        }
+    }
+
+    /**
+     * Human-readable summary of the settings.
+     *
+     * @return description of the profile
+     */
+    public String describe() {
+        return String.format("transacted: %s, delivery mode: %s, time-to-live: %s, message ID and timestamp: %s",
+                transacted,
+                Objects.isNull(deliveryMode) ? "provider default" : deliveryModeToString(deliveryMode),
+                Objects.isNull(timeToLive) ? "provider default" : timeToLiveToString(timeToLive),
+                disableMessageIdAndTimestamp ? "disabled" : "enabled");
+    }
+
+    /**
+     * Convert the JMS delivery mode to a readable string.
+     *
+     * @param deliveryMode the JMS delivery mode
+     * @return name of the delivery mode
+     */
+    private static String deliveryModeToString(int deliveryMode) {
+        return deliveryMode == DeliveryMode.PERSISTENT ? "persistent" : "non-persistent";
+    }
+
+    /**
+     * Convert the time-to-live to a readable string.
+     *
+     * @param timeToLive the message time-to-live in milliseconds
+     * @return the time-to-live
+     */
+    private static String timeToLiveToString(long timeToLive) {
+        return timeToLive == 0 ? "unlimited" : timeToLive + " ms";
+    }
+}
@@ -0,0 +1,317 @@
+package com.remal.jmssender.jms;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.QueueConnection;
+import javax.jms.QueueSender;
+import javax.jms.QueueSession;
+import javax.jms.TextMessage;
+
+import com.remal.jmssender.util.AnsiColor;
+
+/**
+ * Sends the same message with every delivery profile to the same queue and
+ * reports the measured throughput and send latency of each profile.
+ *
+ * <p>Before the measurement every profile sends a fixed number of not measured
+ * messages, so the connection setup and the JIT compilation are not charged to
+ * the first profile. The measured messages are split into rounds and the order
+ * of the profiles is rotated in every round, so the position of a profile does
+ * not distort its result.</p>
+ *
+ * <p>The messages are really delivered to the queue, so use a queue where the
+ * extra messages do not cause any harm.</p>
+ *
+ * @author arnold.somogyi@gmail.com
+ */
+public class DeliveryProfileBenchmark {
+
+    private static final String HEADER_FORMAT = "%-16s %10s %12s %10s %10s %10s %10s%n";
+    private static final String ROW_FORMAT = "%-16s %10d %12.1f %10.3f %10.3f %10.3f %10.3f%n";
+    private static final String FAILED_ROW_FORMAT = "%-16s %10d %s%n";
+
+    /**
+     * The number of not measured messages sent with each profile before the
+     * measurement starts.
+     */
+    private static final int WARM_UP_MESSAGES = 100;
+
+    /**
+     * The number of rounds the measured messages are split into. There is one
+     * round per profile, so with the rotated order each profile runs once in
+     * every position.
+     */
+    private static final int ROUNDS = DeliveryProfile.values().length;
+
+    /**
+     * The lowest accepted number of measured messages per profile. Below this
+     * value some rounds would be empty and the rotation would be incomplete.
+     */
+    public static final int MIN_MESSAGES = ROUNDS;
+
+    /**
+     * The highest accepted number of measured messages per profile, the
+     * latency of every message is kept in memory.
+     */
+    public static final int MAX_MESSAGES = 1_000_000;
+
+    private final PrintStream out;
+    private final boolean verbose;
+
+    /**
+     * Constructor.
+     *
+     * @param out the "standard" output stream
+     * @param verbose prints additional log details as to what the tool is doing
+     */
+    public DeliveryProfileBenchmark(PrintStream out, boolean verbose) {
+        this.out = out;
+        this.verbose = verbose;
+    }
+
+    /**
+     * Run the comparison and print the result table. A profile that fails is
+     * reported in its own row and skipped in the remaining rounds, the other
+     * profiles are still measured.
+     *
+     * @param queueConnection queue connection
+     * @param queue the queue where the messages will be sent
+     * @param message the message as a string
+     * @param correlationId the JMS message correlation id, can be null
+     * @param messageCount the number of measured messages per profile, between {@link #MIN_MESSAGES} and
+     *                     {@link #MAX_MESSAGES}
+     * @return true if every profile has been measured without error
+     */
+    public boolean run(QueueConnection queueConnection,
+                       Queue queue,
+                       String message,
+                       String correlationId,
+                       int messageCount) {
+
+        DeliveryProfile[] profiles = DeliveryProfile.values();
+        Result[] results = new Result[profiles.length];
+        for (DeliveryProfile profile : profiles) {
+            results[profile.ordinal()] = new Result(profile, messageCount);
+        }
+
+        for (DeliveryProfile profile : profiles) {
+            out.printf(AnsiColor.YELLOW_BRIGHT);
+            out.printf("warming up the '%s' delivery profile (%d messages)...%n",
+                    profile.getName(), WARM_UP_MESSAGES);
+            if (verbose) {
+                out.printf(AnsiColor.YELLOW);
+                out.printf("profile settings: %s%n", profile.describe());
+            }
+            send(profile, results[profile.ordinal()], queueConnection, queue, message, correlationId,
+                    WARM_UP_MESSAGES, false);
+        }
+
+        List<String> orders = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            int roundMessageCount = messageCount / ROUNDS + (round < messageCount % ROUNDS ? 1 : 0);
+
+            List<String> order = new ArrayList<>();
+            for (DeliveryProfile profile : rotate(profiles, round)) {
+                if (Objects.nonNull(results[profile.ordinal()].error)) {
+                    continue;
+                }
+                order.add(profile.getName());
+                out.printf(AnsiColor.YELLOW_BRIGHT);
+                out.printf("round %d: measuring the '%s' delivery profile (%d messages)...%n",
+                        round + 1, profile.getName(), roundMessageCount);
+                send(profile, results[profile.ordinal()], queueConnection, queue, message, correlationId,
+                        roundMessageCount, true);
+            }
+            orders.add(order.isEmpty() ? "none" : String.join(", ", order));
+        }
+
+        printResults(results, orders);
+        return Arrays.stream(results).allMatch(result -> Objects.isNull(result.error));
+    }
+
+    /**
+     * Send the messages with the given profile in a new session. A failure
+     * is recorded in the result of the profile.
+     *
+     * @param profile the delivery profile
+     * @param result the measured values of the profile
+     * @param queueConnection queue connection
+     * @param queue queue
+     * @param message the message as a string
+     * @param correlationId the JMS message correlation id, can be null
+     * @param messageCount the number of messages to send
+     * @param measured whether the latency of the sends is recorded
+     */
+    private void send(DeliveryProfile profile,
+                      Result result,
+                      QueueConnection queueConnection,
+                      Queue queue,
+                      String message,
+                      String correlationId,
+                      int messageCount,
+                      boolean measured) {
+
+        try (QueueSession queueSession = profile.createSession(queueConnection);
+             QueueSender queueSender = profile.createSender(queueSession, queue)) {
+
+            TextMessage textMessage = queueSession.createTextMessage(message);
+            if (Objects.nonNull(correlationId)) {
+                textMessage.setJMSCorrelationID(correlationId);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < messageCount; i++) {
+                long sendStart = System.nanoTime();
+                profile.send(queueSession, queueSender, textMessage);
+                if (measured) {
+                    result.addLatency(System.nanoTime() - sendStart);
+                }
+            }
+            if (measured) {
+                result.elapsed += System.nanoTime() - start;
+            }
+        } catch (JMSException e) {
+            result.error = e.toString();
+            out.printf(AnsiColor.RED_BOLD_BRIGHT);
+            out.printf("the '%s' delivery profile failed: %s%n", profile.getName(), result.error);
+        }
+    }
+
+    /**
+     * Rotate the profiles to the left.
+     *
+     * @param profiles the profiles
+     * @param distance the number of positions
+     * @return a new array with the rotated profiles
+     */
+    private static DeliveryProfile[] rotate(DeliveryProfile[] profiles, int distance) {
+        DeliveryProfile[] rotated = new DeliveryProfile[profiles.length];
+        for (int i = 0; i < profiles.length; i++) {
+            rotated[i] = profiles[(i + distance) % profiles.length];
+        }
+        return rotated;
+    }
+
+    /**
+     * Print the measured values as a table.
+     *
+     * @param results the measured values per profile
+     * @param orders the order of the profiles that ran in each round
+     */
+    private void printResults(Result[] results, List<String> orders) {
+        out.printf("%n");
+        out.printf(AnsiColor.YELLOW);
+        out.printf("warm-up: %d messages per profile%n", WARM_UP_MESSAGES);
+        for (int i = 0; i < orders.size(); i++) {
+            out.printf("round %d order: %s%n", i + 1, orders.get(i));
+        }
+
+        out.printf("%n");
+        out.printf(AnsiColor.GREEN_BOLD_BRIGHT);
+        out.printf(HEADER_FORMAT, "profile", "messages", "msg/s", "avg ms", "p50 ms", "p99 ms", "max ms");
+        out.printf(AnsiColor.DEFAULT);
+        for (Result result : results) {
+            if (Objects.nonNull(result.error)) {
+                out.printf(AnsiColor.RED_BOLD_BRIGHT);
+                out.printf(FAILED_ROW_FORMAT, result.profile.getName(), result.count, "FAILED: " + result.error);
+                out.printf(AnsiColor.DEFAULT);
+            } else {
+                result.sort();
+                out.printf(ROW_FORMAT,
+                        result.profile.getName(),
+                        result.count,
+                        result.throughput(),
+                        toMillis(result.average()),
+                        toMillis(result.percentile(50)),
+                        toMillis(result.percentile(99)),
+                        toMillis(result.percentile(100)));
+            }
+        }
+    }
+
+    /**
+     * Convert nanoseconds to milliseconds.
+     *
+     * @param nanos time in nanoseconds
+     * @return time in milliseconds
+     */
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Measured values of one profile, combined from all rounds.
+     */
+    private static class Result {
+        private final DeliveryProfile profile;
+        private final long[] latencies;
+        private int count;
+        private long elapsed;
+        private String error;
+
+        /**
+         * Constructor.
+         *
+         * @param profile the delivery profile
+         * @param messageCount the number of measured messages
+         */
+        Result(DeliveryProfile profile, int messageCount) {
+            this.profile = profile;
+            this.latencies = new long[messageCount];
+        }
+
+        /**
+         * Record the latency of a send.
+         *
+         * @param latency the latency in nanoseconds
+         */
+        void addLatency(long latency) {
+            latencies[count++] = latency;
+        }
+
+        /**
+         * Sort the recorded latencies, needed by the percentile calculation.
+         */
+        void sort() {
+            Arrays.sort(latencies, 0, count);
+        }
+
+        /**
+         * Sent messages per second.
+         *
+         * @return the throughput
+         */
+        double throughput() {
+            return elapsed == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+
+        /**
+         * Average send latency.
+         *
+         * @return the average in nanoseconds
+         */
+        double average() {
+            return Arrays.stream(latencies, 0, count).average().orElse(0);
+        }
+
+        /**
+         * Send latency percentile using the nearest-rank method.
+         *
+         * @param percentile the percentile between 1 and 100
+         * @return the latency in nanoseconds
+         */
+        double percentile(int percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return latencies[Math.max(rank, 1) - 1];
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.remal.jmssender.picocli;
+
+import com.remal.jmssender.jms.DeliveryProfile;
+import picocli.CommandLine.ITypeConverter;
+import picocli.CommandLine.TypeConversionException;
+
+/**
+ * Converts the profile names used on the command line, e.g. 'max-throughput',
+ * to {@link DeliveryProfile} values.
+ *
+ * @author arnold.somogyi@gmail.com
+ */
+public class DeliveryProfileConverter implements ITypeConverter<DeliveryProfile> {
+
+    /**
+     * Converts the specified command line argument value to a delivery profile.
+     *
+     * @param value the command line argument
+     * @return the delivery profile
+     * @throws TypeConversionException if the profile name is unknown
+     */
+    @Override
+    public DeliveryProfile convert(String value) {
+        try {
+            return DeliveryProfile.fromName(value);
+        } catch (IllegalArgumentException e) {
+            throw new TypeConversionException(e.getMessage());
+        }
+    }
+}